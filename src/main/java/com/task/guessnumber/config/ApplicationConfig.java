@@ -1,24 +1,47 @@
 package com.task.guessnumber.config;
 
+import com.task.guessnumber.model.Bet;
+import com.task.guessnumber.model.RoundDelta;
+import com.task.guessnumber.model.RoundResult;
+import com.task.guessnumber.service.SnapshotService;
+import com.task.guessnumber.util.RestorableRandom;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
-import java.util.Random;
+import java.nio.file.Path;
 
 @Configuration
+@RegisterReflectionForBinding({Bet.class, RoundDelta.class, RoundResult.class})
 public class ApplicationConfig {
 
     @Bean
-    public Random random() {
-        return new Random();
+    public RestorableRandom random(SnapshotService snapshotService) {
+        if (!snapshotEnabled) {
+            return new RestorableRandom();
+        }
+        return snapshotService.load()
+                .map(snapshot -> new RestorableRandom(snapshot.getRandomState()))
+                .orElseGet(RestorableRandom::new);
     }
 
     @Value("${round.delay}")
     private int roundDelay;
 
+    @Value("${snapshot.enabled}")
+    private boolean snapshotEnabled;
+
+    @Value("${snapshot.path}")
+    private String snapshotPath;
+
     @Bean
     public int roundDelay() {
         return roundDelay;
     }
+
+    @Bean
+    public Path snapshotPath() {
+        return Path.of(snapshotPath);
+    }
 }
@@ -0,0 +1,22 @@
+package com.task.guessnumber.controller;
+
+import com.task.guessnumber.model.RoundResult;
+import com.task.guessnumber.service.RoundHistoryService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+public class HistoryController {
+
+    private final RoundHistoryService roundHistoryService;
+
+    @GetMapping("/history")
+    public List<RoundResult> history(@RequestParam(required = false) Integer limit) {
+        return roundHistoryService.recent(limit == null ? roundHistoryService.getCapacity() : limit);
+    }
+}
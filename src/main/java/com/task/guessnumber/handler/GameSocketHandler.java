@@ -6,6 +6,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Service;
 import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.PongMessage;
 import org.springframework.web.socket.TextMessage;
 import org.springframework.web.socket.WebSocketSession;
 import org.springframework.web.socket.handler.TextWebSocketHandler;
@@ -25,6 +26,11 @@ public class GameSocketHandler extends TextWebSocketHandler {
         gameSocketService.handleTextMessage(session, message);
     }
 
+    @Override
+    protected void handlePongMessage(@NonNull WebSocketSession session, @NonNull PongMessage message) {
+        gameSocketService.handlePongMessage(session);
+    }
+
     @Override
     public void afterConnectionEstablished(@NonNull WebSocketSession session) {
         log.info(String.format(CONNECTION_ESTABLISHED, session.getId()));
@@ -0,0 +1,21 @@
+package com.task.guessnumber.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Map;
+
+@Getter
+@AllArgsConstructor
+@ToString
+public class GameSnapshot {
+
+    private long round;
+
+    @ToString.Exclude
+    private long randomState;
+
+    @ToString.Exclude
+    private Map<String, String> resumeTokens;
+}
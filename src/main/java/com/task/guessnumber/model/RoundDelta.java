@@ -0,0 +1,24 @@
+package com.task.guessnumber.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@AllArgsConstructor
+@ToString
+public class RoundDelta {
+
+    @JsonProperty
+    private long round;
+
+    @JsonProperty
+    private long pot;
+
+    @JsonProperty
+    private long[] betsPerNumber;
+
+    @JsonProperty
+    private long remainingMillis;
+}
@@ -0,0 +1,29 @@
+package com.task.guessnumber.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.math.BigDecimal;
+
+@Getter
+@AllArgsConstructor
+@ToString
+public class RoundResult {
+
+    @JsonProperty
+    private long round;
+
+    @JsonProperty
+    private int number;
+
+    @JsonProperty
+    private int winners;
+
+    @JsonProperty
+    private long pot;
+
+    @JsonProperty
+    private BigDecimal payout;
+}
@@ -0,0 +1,61 @@
+package com.task.guessnumber.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+
+import static com.task.guessnumber.util.LoggerConstants.SNAPSHOT_WRITE_FAILED;
+
+@Service
+@Lazy(false)
+@RequiredArgsConstructor
+@Slf4j
+public class GameDrainService implements SmartLifecycle, SmartInitializingSingleton {
+
+    private final GameSocketService gameSocketService;
+    private final SnapshotService snapshotService;
+    private volatile boolean running;
+
+    @Value("${snapshot.enabled}")
+    private boolean snapshotEnabled;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (snapshotEnabled) {
+            snapshotService.load().ifPresent(gameSocketService::restore);
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        if (!snapshotEnabled) {
+            running = false;
+            return;
+        }
+        try {
+            snapshotService.write(gameSocketService.drain());
+        } catch (IOException e) {
+            log.error(String.format(SNAPSHOT_WRITE_FAILED, e.getMessage()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            running = false;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
@@ -3,9 +3,13 @@ package com.task.guessnumber.service;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.task.guessnumber.model.Bet;
+import com.task.guessnumber.model.GameSnapshot;
+import com.task.guessnumber.model.RoundResult;
+import com.task.guessnumber.util.RestorableRandom;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.web.socket.CloseStatus;
 import org.springframework.web.socket.TextMessage;
 import org.springframework.web.socket.WebSocketSession;
 
@@ -13,8 +17,14 @@ import java.io.IOException;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
+import static com.task.guessnumber.util.CommandConstants.HISTORY;
+import static com.task.guessnumber.util.CommandConstants.RESUME;
+import static com.task.guessnumber.util.CommandConstants.SUBSCRIBE;
+import static com.task.guessnumber.util.CommandConstants.UNSUBSCRIBE;
 import static com.task.guessnumber.util.LoggerConstants.*;
 import static com.task.guessnumber.util.ResponseConstants.*;
 import static java.util.Objects.isNull;
@@ -25,12 +35,131 @@ import static java.util.Objects.nonNull;
 @Slf4j
 public class GameSocketService {
 
-    private final Random random;
+    private final RestorableRandom random;
     private final int ROUND_DELAY;
+    private final RoundDeltaService roundDeltaService;
+    private final SessionReaperService sessionReaperService;
+    private final RoundHistoryService roundHistoryService;
     private final Map<WebSocketSession, Bet> players = new HashMap<>();
+    private final Map<WebSocketSession, String> playerNames = new HashMap<>();
+    private final Map<String, String> resumeTokens = new HashMap<>();
+    private final Map<String, WebSocketSession> reservedNames = new HashMap<>();
+    private final CountDownLatch roundFinished = new CountDownLatch(1);
     private Timer timer;
+    private long round;
+    private long restoredRound;
+    private volatile boolean draining;
 
     public void handleTextMessage(WebSocketSession session, TextMessage message) {
+        sessionReaperService.touch(session);
+        String command = message.getPayload().trim();
+        String[] commandParts = command.split("\\s+", 2);
+        if (SUBSCRIBE.equalsIgnoreCase(command)) {
+            roundDeltaService.subscribe(session);
+            sendMessage(session, SUBSCRIBED);
+        } else if (UNSUBSCRIBE.equalsIgnoreCase(command)) {
+            roundDeltaService.unsubscribe(session);
+            sendMessage(session, UNSUBSCRIBED);
+        } else if (HISTORY.equalsIgnoreCase(command)) {
+            sendHistory(session);
+        } else if (RESUME.equalsIgnoreCase(commandParts[0]) && commandParts.length == 2) {
+            sendMessage(session, resume(session, commandParts[1]));
+        } else {
+            handleBet(session, message);
+        }
+    }
+
+    public void afterConnectionEstablished(WebSocketSession session) {
+        List<Runnable> outbox = new ArrayList<>();
+        synchronized (this) {
+            if (draining) {
+                outbox.add(() -> sendMessage(session, SERVER_RESTARTING));
+                outbox.add(() -> closeSession(session, CloseStatus.SERVICE_RESTARTED));
+            } else {
+                players.put(session, null);
+                sessionReaperService.register(session);
+                startGameIfNotRunning(session, outbox);
+            }
+        }
+        outbox.forEach(Runnable::run);
+    }
+
+    public void handlePongMessage(WebSocketSession session) {
+        sessionReaperService.touch(session);
+    }
+
+    public void afterConnectionClosed(WebSocketSession session) {
+        List<Runnable> outbox = new ArrayList<>();
+        synchronized (this) {
+            players.remove(session);
+            playerNames.remove(session);
+            roundDeltaService.unsubscribe(session);
+            sessionReaperService.unregister(session);
+            if (players.isEmpty() && nonNull(timer)) {
+                resetTimer(outbox);
+            }
+        }
+        outbox.forEach(Runnable::run);
+    }
+
+    public GameSnapshot drain() throws InterruptedException {
+        log.info(DRAIN_STARTED);
+        if (startDraining()) {
+            roundFinished.await(ROUND_DELAY * 2L, TimeUnit.MILLISECONDS);
+        }
+        List<Runnable> outbox = new ArrayList<>();
+        GameSnapshot snapshot = disconnectPlayers(outbox);
+        outbox.forEach(Runnable::run);
+        return snapshot;
+    }
+
+    public synchronized void restore(GameSnapshot snapshot) {
+        round = snapshot.getRound();
+        restoredRound = snapshot.getRound();
+        resumeTokens.putAll(snapshot.getResumeTokens());
+        snapshot.getResumeTokens().values().forEach(name -> reservedNames.put(name, null));
+    }
+
+    private synchronized boolean startDraining() {
+        draining = true;
+        return nonNull(timer);
+    }
+
+    private synchronized GameSnapshot disconnectPlayers(List<Runnable> outbox) {
+        Map<String, String> tokens = new HashMap<>();
+        for (WebSocketSession session : players.keySet()) {
+            String name = playerNames.get(session);
+            if (nonNull(name)) {
+                String token = UUID.randomUUID().toString();
+                tokens.put(token, name);
+                outbox.add(() -> sendMessage(session, String.format(SERVER_RESTARTING_RESUME, token)));
+            } else {
+                outbox.add(() -> sendMessage(session, SERVER_RESTARTING));
+            }
+            outbox.add(() -> closeSession(session, CloseStatus.SERVICE_RESTARTED));
+        }
+        return new GameSnapshot(round, random.getState(), tokens);
+    }
+
+    private synchronized String resume(WebSocketSession session, String token) {
+        String name = resumeTokens.remove(token);
+        if (isNull(name)) {
+            return INVALID_RESUME_TOKEN;
+        }
+        reservedNames.put(name, session);
+        playerNames.put(session, name);
+        log.info(String.format(PLAYER_REATTACHED, name, session.getId()));
+        return String.format(PLAYER_RESUMED, name, restoredRound);
+    }
+
+    private void releaseReservedNames() {
+        if (!reservedNames.isEmpty() && round > restoredRound) {
+            resumeTokens.clear();
+            reservedNames.clear();
+        }
+    }
+
+    private void handleBet(WebSocketSession session, TextMessage message) {
         try {
             ObjectMapper mapper = new ObjectMapper();
             Bet bet = mapper.readValue(message.getPayload(), Bet.class);
@@ -41,20 +170,17 @@ public class GameSocketService {
         }
     }
 
-    public void afterConnectionEstablished(WebSocketSession session) {
-        players.put(session, null);
-        startGameIfNotRunning(session);
-    }
-
-    public void afterConnectionClosed(WebSocketSession session) {
-        players.remove(session);
-        if (players.isEmpty() && nonNull(timer)) {
-            resetTimer();
+    private void sendHistory(WebSocketSession session) {
+        try {
+            ObjectMapper mapper = new ObjectMapper();
+            sendMessage(session, mapper.writeValueAsString(roundHistoryService.recent(roundHistoryService.getCapacity())));
+        } catch (JsonProcessingException e) {
+            log.error(String.format(FAILED_HISTORY_SERIALIZATION, e.getMessage()));
         }
     }
 
-    private String validateBet(WebSocketSession session, Bet bet) {
-        if (isNameTaken(bet.getName())) {
+    private synchronized String validateBet(WebSocketSession session, Bet bet) {
+        if (isNameTaken(session, bet.getName())) {
             return NAME_ALREADY_TAKEN;
         } else if (nonNull(players.get(session))) {
             return ONLY_ONE_BET_ALLOWED;
@@ -64,49 +190,92 @@ public class GameSocketService {
             return INVALID_BET_AMOUNT;
         } else {
             players.put(session, bet);
+            playerNames.put(session, bet.getName());
+            roundDeltaService.recordBet(bet);
             log.info(String.format(RECEIVED_BET, bet, session.getId()));
             return BET_ACCEPTED;
         }
     }
 
-    private boolean isNameTaken(String name) {
+    private boolean isNameTaken(WebSocketSession session, String name) {
+        if (reservedNames.containsKey(name) && reservedNames.get(name) != session) {
+            return true;
+        }
         return players.values().stream().filter(Objects::nonNull).anyMatch(player -> name.equals(player.getName()));
     }
 
     private void sendMessage(WebSocketSession session, String message) {
         try {
-            session.sendMessage(new TextMessage(message));
-        } catch (IOException e) {
+            synchronized (session) {
+                session.sendMessage(new TextMessage(message));
+            }
+        } catch (IOException | IllegalStateException e) {
             System.err.printf(FAILED_MESSAGE_SENDING, e.getMessage(), session.getId());
         }
     }
 
-    private void startGameIfNotRunning(WebSocketSession session) {
+    private void closeSession(WebSocketSession session, CloseStatus status) {
+        try {
+            session.close(status);
+        } catch (IOException | IllegalStateException e) {
+            System.err.printf(FAILED_SESSION_CLOSING, session.getId(), e.getMessage());
+        }
+    }
+
+    private void startGameIfNotRunning(WebSocketSession session, List<Runnable> outbox) {
         if (isNull(timer)) {
-            startGameRound();
+            startGameRound(outbox);
         } else {
-            sendMessage(session, GAME_ALREADY_RUNNING);
+            outbox.add(() -> sendMessage(session, GAME_ALREADY_RUNNING));
         }
     }
 
-    private void startGameRound() {
-        sendMessageToAllPlayers();
-        timer = new Timer();
-        timer.schedule(new TimerTask() {
+    private void startGameRound(List<Runnable> outbox) {
+        round++;
+        sendMessageToAllPlayers(outbox);
+        roundDeltaService.startRound(round, ROUND_DELAY);
+        Timer roundTimer = new Timer();
+        timer = roundTimer;
+        roundTimer.schedule(new TimerTask() {
             @Override
             public void run() {
-                int generatedNumber = random.nextInt(1, 11);
-                log.info(String.format(GENERATED_NUMBER, generatedNumber));
-                Map<String, BigDecimal> winners = determineWinners(generatedNumber);
-                notifyPlayers(winners, generatedNumber);
-                handleNextRoundStart();
+                finishRound(roundTimer);
             }
         }, ROUND_DELAY);
     }
 
-    private void sendMessageToAllPlayers() {
+    private void finishRound(Timer roundTimer) {
+        List<Runnable> outbox = new ArrayList<>();
+        synchronized (this) {
+            if (roundTimer != timer) {
+                return;
+            }
+            try {
+                playRound(outbox);
+            } catch (RuntimeException e) {
+                log.error(String.format(ROUND_FAILED, round, e.getMessage()));
+            }
+            players.replaceAll((session, bet) -> null);
+            releaseReservedNames();
+            handleNextRoundStart(outbox);
+        }
+        outbox.forEach(Runnable::run);
+    }
+
+    private void playRound(List<Runnable> outbox) {
+        roundDeltaService.endRound();
+        int generatedNumber = random.nextInt(1, 11);
+        log.info(String.format(GENERATED_NUMBER, generatedNumber));
+        Map<String, BigDecimal> winners = determineWinners(generatedNumber);
+        recordRoundResult(winners, generatedNumber);
+        List<WebSocketSession> idlePlayers = sessionReaperService.roundEnded(players);
+        notifyPlayers(winners, generatedNumber, outbox);
+        disconnectIdlePlayers(idlePlayers, outbox);
+    }
+
+    private void sendMessageToAllPlayers(List<Runnable> outbox) {
         for (WebSocketSession session : players.keySet()) {
-            sendMessage(session, GAME_START);
+            outbox.add(() -> sendMessage(session, GAME_START));
         }
     }
 
@@ -124,11 +293,17 @@ public class GameSocketService {
         return winners;
     }
 
+    private void recordRoundResult(Map<String, BigDecimal> winners, int generatedNumber) {
+        long pot = players.values().stream().filter(Objects::nonNull).mapToLong(Bet::getBetAmount).sum();
+        BigDecimal payout = winners.values().stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+        roundHistoryService.record(new RoundResult(round, generatedNumber, winners.size(), pot, payout));
+    }
+
     private BigDecimal calculateWinAmount(int betAmount) {
         return BigDecimal.valueOf(betAmount * 9.9).setScale(2, RoundingMode.HALF_UP);
     }
 
-    private void notifyPlayers(Map<String, BigDecimal> winners, int generatedNumber) {
+    private void notifyPlayers(Map<String, BigDecimal> winners, int generatedNumber, List<Runnable> outbox) {
         String tableOfWinners = getTableOfWinners(winners);
         for (Map.Entry<WebSocketSession, Bet> player : players.entrySet()) {
             String resultMessage;
@@ -141,14 +316,22 @@ public class GameSocketService {
             } else {
                 resultMessage = DID_NOT_PARTICIPATE;
             }
-            sendMessage(player.getKey(), resultMessage);
-            sendMessage(player.getKey(), tableOfWinners);
-            player.setValue(null);
+            WebSocketSession session = player.getKey();
+            outbox.add(() -> sendMessage(session, resultMessage));
+            outbox.add(() -> sendMessage(session, tableOfWinners));
         }
         log.info(tableOfWinners);
         log.info(ROUND_ENDED);
     }
 
+    private void disconnectIdlePlayers(List<WebSocketSession> idlePlayers, List<Runnable> outbox) {
+        for (WebSocketSession session : idlePlayers) {
+            log.info(String.format(IDLE_SESSION_CLOSED, session.getId()));
+            outbox.add(() -> sendMessage(session, IDLE_DISCONNECTED));
+            outbox.add(() -> closeSession(session, CloseStatus.POLICY_VIOLATION.withReason(IDLE_DISCONNECTED)));
+        }
+    }
+
     private String getTableOfWinners(Map<String, BigDecimal> winners) {
         if (winners.isEmpty()) {
             return NO_WINNERS;
@@ -166,17 +349,25 @@ public class GameSocketService {
         return result.toString();
     }
 
-    private void handleNextRoundStart() {
-        if (!players.isEmpty()) {
-            log.info(NEW_ROUND_STARTED);
-            startGameRound();
+    private void handleNextRoundStart(List<Runnable> outbox) {
+        if (!players.isEmpty() && !draining) {
+            log.info(String.format(NEW_ROUND_STARTED, round + 1));
+            startGameRound(outbox);
         } else {
-            resetTimer();
+            resetTimer(outbox);
         }
     }
 
-    private void resetTimer() {
+    private void resetTimer(List<Runnable> outbox) {
+        if (isNull(timer)) {
+            return;
+        }
         timer.cancel();
         timer = null;
+        roundDeltaService.endRound();
+        if (draining) {
+            // counted down only after the round results queued before it have been sent
+            outbox.add(roundFinished::countDown);
+        }
     }
 }
@@ -0,0 +1,135 @@
+package com.task.guessnumber.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.task.guessnumber.model.Bet;
+import com.task.guessnumber.model.RoundDelta;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.task.guessnumber.util.LoggerConstants.FAILED_DELTA_SERIALIZATION;
+import static com.task.guessnumber.util.ResponseConstants.FAILED_MESSAGE_SENDING;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+@Service
+@Slf4j
+public class RoundDeltaService {
+
+    private static final int NUMBERS = 10;
+
+    private final long interval;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final Set<WebSocketSession> subscribers = ConcurrentHashMap.newKeySet();
+    private final LongAdder pot = new LongAdder();
+    private final LongAdder bets = new LongAdder();
+    private final LongAdder[] betsPerNumber = new LongAdder[NUMBERS];
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "round-delta");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private ScheduledFuture<?> publishing;
+    private long round;
+    private long roundEndsAt;
+    private long publishedBets;
+
+    public RoundDeltaService(@Value("${delta.interval}") long interval) {
+        this.interval = interval;
+        for (int i = 0; i < NUMBERS; i++) {
+            betsPerNumber[i] = new LongAdder();
+        }
+    }
+
+    public void subscribe(WebSocketSession session) {
+        subscribers.add(session);
+    }
+
+    public void unsubscribe(WebSocketSession session) {
+        subscribers.remove(session);
+    }
+
+    public synchronized void startRound(long round, long duration) {
+        stopPublishing();
+        pot.reset();
+        bets.reset();
+        for (LongAdder counter : betsPerNumber) {
+            counter.reset();
+        }
+        this.round = round;
+        this.roundEndsAt = System.currentTimeMillis() + duration;
+        this.publishedBets = 0;
+        publishing = scheduler.scheduleAtFixedRate(this::publish, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    public void recordBet(Bet bet) {
+        pot.add(bet.getBetAmount());
+        betsPerNumber[bet.getNumber() - 1].increment();
+        bets.increment();
+    }
+
+    public synchronized void endRound() {
+        stopPublishing();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    private void publish() {
+        RoundDelta delta = nextDelta();
+        if (isNull(delta)) {
+            return;
+        }
+        try {
+            TextMessage message = new TextMessage(mapper.writeValueAsString(delta));
+            for (WebSocketSession session : subscribers) {
+                sendMessage(session, message);
+            }
+        } catch (JsonProcessingException e) {
+            log.error(String.format(FAILED_DELTA_SERIALIZATION, e.getMessage()));
+        }
+    }
+
+    private synchronized RoundDelta nextDelta() {
+        // coalesce: nothing is sent unless a bet was admitted since the previous delta
+        long admitted = bets.sum();
+        if (admitted == publishedBets || subscribers.isEmpty()) {
+            return null;
+        }
+        publishedBets = admitted;
+        long[] perNumber = new long[NUMBERS];
+        for (int i = 0; i < NUMBERS; i++) {
+            perNumber[i] = betsPerNumber[i].sum();
+        }
+        long remaining = Math.max(0, roundEndsAt - System.currentTimeMillis());
+        return new RoundDelta(round, pot.sum(), perNumber, remaining);
+    }
+
+    private void sendMessage(WebSocketSession session, TextMessage message) {
+        try {
+            synchronized (session) {
+                session.sendMessage(message);
+            }
+        } catch (IOException | IllegalStateException e) {
+            System.err.printf(FAILED_MESSAGE_SENDING, e.getMessage(), session.getId());
+        }
+    }
+
+    private void stopPublishing() {
+        if (nonNull(publishing)) {
+            publishing.cancel(false);
+            publishing = null;
+        }
+    }
+}
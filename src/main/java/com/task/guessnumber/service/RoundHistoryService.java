@@ -0,0 +1,72 @@
+package com.task.guessnumber.service;
+
+import com.task.guessnumber.model.RoundResult;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.lang.invoke.VarHandle;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+public class RoundHistoryService {
+
+    private static final int ROUND = 0;
+    private static final int NUMBER = 8;
+    private static final int WINNERS = 12;
+    private static final int POT = 16;
+    private static final int PAYOUT = 24;
+    private static final int RECORD_SIZE = 32;
+
+    @Getter
+    private final int capacity;
+    private final int slots;
+    private final ByteBuffer buffer;
+    private volatile long written;
+
+    public RoundHistoryService(@Value("${history.capacity}") int capacity) {
+        this.capacity = capacity;
+        this.slots = capacity + 1;
+        this.buffer = ByteBuffer.allocateDirect(slots * RECORD_SIZE);
+    }
+
+    public void record(RoundResult result) {
+        long index = written;
+        int offset = offset(index);
+        buffer.putLong(offset + ROUND, result.getRound());
+        buffer.putInt(offset + NUMBER, result.getNumber());
+        buffer.putInt(offset + WINNERS, result.getWinners());
+        buffer.putLong(offset + POT, result.getPot());
+        buffer.putLong(offset + PAYOUT, result.getPayout().movePointRight(2).longValueExact());
+        written = index + 1;
+    }
+
+    public List<RoundResult> recent(int limit) {
+        long end = written;
+        long start = Math.max(0, end - Math.min(Math.max(limit, 0), capacity));
+        List<RoundResult> results = new ArrayList<>((int) (end - start));
+        for (long index = end - 1; index >= start; index--) {
+            int offset = offset(index);
+            results.add(new RoundResult(
+                    buffer.getLong(offset + ROUND),
+                    buffer.getInt(offset + NUMBER),
+                    buffer.getInt(offset + WINNERS),
+                    buffer.getLong(offset + POT),
+                    BigDecimal.valueOf(buffer.getLong(offset + PAYOUT), 2)));
+        }
+        // drop records the single writer may have overwritten while they were copied
+        VarHandle.loadLoadFence();
+        long overwrittenBefore = written - capacity;
+        if (start < overwrittenBefore) {
+            results.subList((int) Math.max(0, end - overwrittenBefore), results.size()).clear();
+        }
+        return results;
+    }
+
+    private int offset(long index) {
+        return (int) (index % slots) * RECORD_SIZE;
+    }
+}
@@ -0,0 +1,117 @@
+package com.task.guessnumber.service;
+
+import com.task.guessnumber.model.Bet;
+import com.task.guessnumber.util.TimingWheel;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.PingMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static com.task.guessnumber.util.LoggerConstants.SESSION_NOT_RESPONDING;
+import static com.task.guessnumber.util.ResponseConstants.FAILED_MESSAGE_SENDING;
+import static com.task.guessnumber.util.ResponseConstants.FAILED_SESSION_CLOSING;
+import static java.util.Objects.nonNull;
+
+@Service
+@Slf4j
+public class SessionReaperService {
+
+    private static final int TICKS_PER_INTERVAL = 8;
+
+    private final int idleRounds;
+    private final TimingWheel<WebSocketSession> wheel = new TimingWheel<>(TICKS_PER_INTERVAL * 2);
+    private final Set<WebSocketSession> pinged = ConcurrentHashMap.newKeySet();
+    private final Map<WebSocketSession, Integer> roundsWithoutBet = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "session-reaper");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public SessionReaperService(@Value("${session.heartbeat.interval}") long heartbeatInterval,
+                                @Value("${session.idle.rounds}") int idleRounds) {
+        this.idleRounds = idleRounds;
+        if (heartbeatInterval > 0) {
+            long tick = Math.max(1, heartbeatInterval / TICKS_PER_INTERVAL);
+            scheduler.scheduleAtFixedRate(this::tick, tick, tick, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public void register(WebSocketSession session) {
+        roundsWithoutBet.put(session, 0);
+        touch(session);
+    }
+
+    public void unregister(WebSocketSession session) {
+        wheel.cancel(session);
+        pinged.remove(session);
+        roundsWithoutBet.remove(session);
+    }
+
+    public void touch(WebSocketSession session) {
+        pinged.remove(session);
+        wheel.schedule(session, TICKS_PER_INTERVAL);
+    }
+
+    public List<WebSocketSession> roundEnded(Map<WebSocketSession, Bet> players) {
+        if (idleRounds <= 0) {
+            return List.of();
+        }
+        List<WebSocketSession> idle = new ArrayList<>();
+        for (Map.Entry<WebSocketSession, Bet> player : players.entrySet()) {
+            int skipped = nonNull(player.getValue()) ? 0 : roundsWithoutBet.getOrDefault(player.getKey(), 0) + 1;
+            roundsWithoutBet.put(player.getKey(), skipped);
+            if (skipped >= idleRounds) {
+                idle.add(player.getKey());
+            }
+        }
+        return idle;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    private void tick() {
+        // a silent session is pinged first and closed only if it stays silent for another interval
+        for (WebSocketSession session : wheel.advance()) {
+            if (pinged.remove(session)) {
+                log.info(String.format(SESSION_NOT_RESPONDING, session.getId()));
+                closeSession(session);
+            } else {
+                pinged.add(session);
+                wheel.schedule(session, TICKS_PER_INTERVAL);
+                ping(session);
+            }
+        }
+    }
+
+    private void ping(WebSocketSession session) {
+        try {
+            synchronized (session) {
+                session.sendMessage(new PingMessage());
+            }
+        } catch (IOException | IllegalStateException e) {
+            System.err.printf(FAILED_MESSAGE_SENDING, e.getMessage(), session.getId());
+        }
+    }
+
+    private void closeSession(WebSocketSession session) {
+        try {
+            session.close(CloseStatus.SESSION_NOT_RELIABLE);
+        } catch (IOException | IllegalStateException e) {
+            System.err.printf(FAILED_SESSION_CLOSING, session.getId(), e.getMessage());
+        }
+    }
+}
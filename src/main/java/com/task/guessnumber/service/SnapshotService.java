@@ -0,0 +1,126 @@
+package com.task.guessnumber.service;
+
+import com.task.guessnumber.model.GameSnapshot;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static com.task.guessnumber.util.LoggerConstants.*;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.*;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SnapshotService {
+
+    private static final int MAGIC = 0x474E5333;
+
+    private final Path snapshotPath;
+    private boolean loaded;
+    private Optional<GameSnapshot> loadedSnapshot = Optional.empty();
+
+    public void write(GameSnapshot snapshot) throws IOException {
+        List<byte[]> strings = snapshot.getResumeTokens().entrySet().stream()
+                .flatMap(player -> Stream.of(player.getKey(), player.getValue()))
+                .map(string -> string.getBytes(StandardCharsets.UTF_8))
+                .toList();
+        int size = Integer.BYTES + Long.BYTES + Long.BYTES + Integer.BYTES
+                + strings.stream().mapToInt(string -> Integer.BYTES + string.length).sum();
+
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putInt(MAGIC).putLong(snapshot.getRound()).putLong(snapshot.getRandomState());
+        buffer.putInt(snapshot.getResumeTokens().size());
+        for (byte[] string : strings) {
+            buffer.putInt(string.length).put(string);
+        }
+        buffer.flip();
+
+        Path parent = snapshotPath.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path tempPath = snapshotPath.resolveSibling(snapshotPath.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tempPath, CREATE, WRITE, TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(tempPath, snapshotPath, REPLACE_EXISTING, ATOMIC_MOVE);
+        log.info(String.format(SNAPSHOT_WRITTEN, snapshot, snapshotPath));
+    }
+
+    // the file is deleted on first read, so it is never restored twice
+    public synchronized Optional<GameSnapshot> load() {
+        if (!loaded) {
+            loadedSnapshot = read();
+            loaded = true;
+        }
+        return loadedSnapshot;
+    }
+
+    private Optional<GameSnapshot> read() {
+        if (!Files.exists(snapshotPath)) {
+            return Optional.empty();
+        }
+        try (FileChannel channel = FileChannel.open(snapshotPath, READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate((int) channel.size());
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) {
+                    throw new IOException("Unexpected end of snapshot");
+                }
+            }
+            buffer.flip();
+            GameSnapshot snapshot = decode(buffer);
+            log.info(String.format(SNAPSHOT_RESTORED, snapshot, snapshotPath));
+            return Optional.of(snapshot);
+        } catch (IOException | RuntimeException e) {
+            log.warn(String.format(SNAPSHOT_READ_FAILED, snapshotPath, e.getMessage()));
+            return Optional.empty();
+        } finally {
+            deleteSnapshot();
+        }
+    }
+
+    private GameSnapshot decode(ByteBuffer buffer) throws IOException {
+        if (buffer.getInt() != MAGIC) {
+            throw new IOException("Unknown snapshot format");
+        }
+        long round = buffer.getLong();
+        long randomState = buffer.getLong();
+        int count = buffer.getInt();
+        Map<String, String> resumeTokens = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            resumeTokens.put(getString(buffer), getString(buffer));
+        }
+        return new GameSnapshot(round, randomState, resumeTokens);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        byte[] string = new byte[buffer.getInt()];
+        buffer.get(string);
+        return new String(string, StandardCharsets.UTF_8);
+    }
+
+    private void deleteSnapshot() {
+        try {
+            Files.deleteIfExists(snapshotPath);
+        } catch (IOException e) {
+            log.warn(String.format(SNAPSHOT_READ_FAILED, snapshotPath, e.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.task.guessnumber.util;
+
+public class CommandConstants {
+    public static final String SUBSCRIBE = "subscribe";
+    public static final String UNSUBSCRIBE = "unsubscribe";
+    public static final String HISTORY = "history";
+    public static final String RESUME = "resume";
+}
@@ -6,5 +6,16 @@ public class LoggerConstants {
     public static final String CONNECTION_CLOSED = "Connection closed for sessionId: %s";
     public static final String GENERATED_NUMBER = "Generated number: %s";
     public static final String ROUND_ENDED = "Round ended";
-    public static final String NEW_ROUND_STARTED = "New round started";
+    public static final String ROUND_FAILED = "Round %s failed: %s";
+    public static final String NEW_ROUND_STARTED = "New round %s started";
+    public static final String FAILED_DELTA_SERIALIZATION = "Failed to serialize round delta: %s";
+    public static final String SESSION_NOT_RESPONDING = "Session did not answer ping, closing sessionId: %s";
+    public static final String IDLE_SESSION_CLOSED = "Session did not bet for too many rounds, closing sessionId: %s";
+    public static final String FAILED_HISTORY_SERIALIZATION = "Failed to serialize round history: %s";
+    public static final String DRAIN_STARTED = "Draining: new sessions are rejected, waiting for the current round to finish";
+    public static final String PLAYER_REATTACHED = "Player %s re-attached after restart; sessionId: %s";
+    public static final String SNAPSHOT_WRITTEN = "Snapshot %s written to %s";
+    public static final String SNAPSHOT_RESTORED = "Snapshot %s restored from %s";
+    public static final String SNAPSHOT_READ_FAILED = "Failed to read snapshot %s: %s";
+    public static final String SNAPSHOT_WRITE_FAILED = "Failed to write snapshot: %s";
 }
@@ -14,5 +14,13 @@ public class ResponseConstants {
     public static final String NO_WINNERS = "There were no winners in current round.";
     public static final String WINNERS = "Winners of the game: ";
     public static final String FAILED_MESSAGE_SENDING = "Failed to send message: %s%n to session %s%n";
+    public static final String SUBSCRIBED = "Subscribed to round updates.";
+    public static final String UNSUBSCRIBED = "Unsubscribed from round updates.";
+    public static final String IDLE_DISCONNECTED = "You were disconnected for not betting in several rounds.";
+    public static final String SERVER_RESTARTING = "Server is restarting, reconnect in a moment.";
+    public static final String SERVER_RESTARTING_RESUME = "Server is restarting, reconnect and send \"resume %s\" to keep your name.";
+    public static final String PLAYER_RESUMED = "Welcome back, %s! The game continues after round %s.";
+    public static final String INVALID_RESUME_TOKEN = "Unknown or expired resume token!";
+    public static final String FAILED_SESSION_CLOSING = "Failed to close session %s: %s%n";
     public static final String ONLY_ONE_BET_ALLOWED = "Only one bet per round is allowed!";
 }
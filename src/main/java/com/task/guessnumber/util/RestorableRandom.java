@@ -0,0 +1,31 @@
+package com.task.guessnumber.util;
+
+import java.util.Random;
+
+public class RestorableRandom extends Random {
+
+    private static final long MULTIPLIER = 0x5DEECE66DL;
+    private static final long ADDEND = 0xBL;
+    private static final long MASK = (1L << 48) - 1;
+
+    private long state;
+
+    public RestorableRandom() {
+        this(new Random().nextLong());
+    }
+
+    public RestorableRandom(long state) {
+        this.state = state & MASK;
+    }
+
+    public synchronized long getState() {
+        return state;
+    }
+
+    // same linear congruential generator as java.util.Random, with the state kept where it can be saved
+    @Override
+    protected synchronized int next(int bits) {
+        state = (state * MULTIPLIER + ADDEND) & MASK;
+        return (int) (state >>> (48 - bits));
+    }
+}
@@ -0,0 +1,43 @@
+package com.task.guessnumber.util;
+
+import java.util.*;
+
+public class TimingWheel<T> {
+
+    private final List<Set<T>> buckets;
+    private final Map<T, Integer> positions = new HashMap<>();
+    private int current;
+
+    public TimingWheel(int size) {
+        buckets = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            buckets.add(new HashSet<>());
+        }
+    }
+
+    public synchronized void schedule(T item, int ticks) {
+        cancel(item);
+        int position = (current + Math.min(Math.max(ticks, 1), buckets.size())) % buckets.size();
+        buckets.get(position).add(item);
+        positions.put(item, position);
+    }
+
+    public synchronized void cancel(T item) {
+        Integer position = positions.remove(item);
+        if (position != null) {
+            buckets.get(position).remove(item);
+        }
+    }
+
+    public synchronized List<T> advance() {
+        current = (current + 1) % buckets.size();
+        Set<T> bucket = buckets.get(current);
+        if (bucket.isEmpty()) {
+            return List.of();
+        }
+        List<T> expired = new ArrayList<>(bucket);
+        bucket.clear();
+        expired.forEach(positions::remove);
+        return expired;
+    }
+}
@@ -0,0 +1,117 @@
+package com.task.guessnumber.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.lang.NonNull;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.concurrent.*;
+
+import static com.task.guessnumber.util.ResponseConstants.*;
+import static java.util.Objects.nonNull;
+import static org.hamcrest.CoreMatchers.anyOf;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestPropertySource("classpath:application-test.properties")
+public class HistoryControllerIntTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Value("${round.delay}")
+    private int ROUND_DELAY;
+
+    @Value("${history.capacity}")
+    private int HISTORY_CAPACITY;
+
+    @LocalServerPort
+    private int port;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final BlockingQueue<String> serverMessages = new LinkedBlockingQueue<>();
+    private WebSocketSession session;
+
+    @AfterEach
+    public void afterEach() throws IOException {
+        if (nonNull(session)) {
+            session.close();
+        }
+    }
+
+    @Test
+    public void historyReturnsPlayedRounds() throws Exception {
+        int betNumber = 3;
+        int betAmount = 10;
+        session = connectNewClient();
+        placeBet(session, "USER_" + UUID.randomUUID(), betNumber, betAmount);
+        waitForRoundResult();
+        session.close();
+
+        JsonNode latest = getHistory("/history?limit=1");
+        assertEquals(1, latest.size());
+        JsonNode result = latest.get(0);
+        assertTrue(result.get("round").asLong() >= 1);
+        assertEquals(betAmount, result.get("pot").asLong());
+        if (result.get("number").asInt() == betNumber) {
+            assertEquals(1, result.get("winners").asInt());
+            assertEquals(0, new BigDecimal("99.00").compareTo(result.get("payout").decimalValue()));
+        } else {
+            assertEquals(0, result.get("winners").asInt());
+            assertEquals(0, BigDecimal.ZERO.compareTo(result.get("payout").decimalValue()));
+        }
+
+        JsonNode all = getHistory("/history");
+        assertTrue(all.size() >= 1 && all.size() <= HISTORY_CAPACITY);
+        assertEquals(result, all.get(0));
+
+        assertEquals(0, getHistory("/history?limit=-1").size());
+    }
+
+    private final TextWebSocketHandler clientSocketHandler = new TextWebSocketHandler() {
+        @Override
+        public void handleTextMessage(@NonNull WebSocketSession session, TextMessage message) {
+            serverMessages.add(message.getPayload());
+        }
+    };
+
+    private WebSocketSession connectNewClient() throws InterruptedException, ExecutionException, TimeoutException {
+        StandardWebSocketClient webSocketClient = new StandardWebSocketClient();
+        String uri = "ws://localhost:" + port + "/game";
+        return webSocketClient.execute(clientSocketHandler, uri).get(1, TimeUnit.SECONDS);
+    }
+
+    private void placeBet(WebSocketSession session, String betName, int betNumber, int betAmount) throws IOException {
+        String bet = String.format("{\"name\":\"%s\",\"number\":%d,\"betAmount\":%d}", betName, betNumber, betAmount);
+        session.sendMessage(new TextMessage(bet));
+    }
+
+    private void waitForRoundResult() throws InterruptedException {
+        String serverMessage;
+        do {
+            serverMessage = serverMessages.poll(ROUND_DELAY * 2L, TimeUnit.MILLISECONDS);
+        } while (serverMessage != null && !serverMessage.contains(LOSS) && !serverMessage.contains(WIN));
+        assertThat(serverMessage, anyOf(containsString(LOSS), containsString(WIN)));
+    }
+
+    private JsonNode getHistory(String url) throws IOException {
+        return mapper.readTree(restTemplate.getForObject(url, String.class));
+    }
+}
@@ -1,26 +1,45 @@
 package com.task.guessnumber.unit;
 
+import com.task.guessnumber.model.GameSnapshot;
 import com.task.guessnumber.service.GameSocketService;
+import com.task.guessnumber.service.RoundDeltaService;
+import com.task.guessnumber.service.RoundHistoryService;
+import com.task.guessnumber.service.SessionReaperService;
+import com.task.guessnumber.util.RestorableRandom;
 import org.junit.jupiter.api.Test;
+import org.springframework.web.socket.CloseStatus;
 import org.springframework.web.socket.TextMessage;
 import org.springframework.web.socket.WebSocketSession;
 
 import java.io.IOException;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
-import java.util.Random;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
+import static com.task.guessnumber.util.CommandConstants.HISTORY;
+import static com.task.guessnumber.util.CommandConstants.RESUME;
+import static com.task.guessnumber.util.CommandConstants.SUBSCRIBE;
 import static com.task.guessnumber.util.ResponseConstants.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.*;
 
 public class GameSocketServiceTest {
 
-    private static final Random random = mock(Random.class);
+    private static final RestorableRandom random = mock(RestorableRandom.class);
     private static final int generatedNumber = 1;
 
     private final int ROUND_DELAY = 1000;
-    private final GameSocketService gameSocketService = new GameSocketService(random, ROUND_DELAY);
+    private final int DELTA_INTERVAL = 250;
+    private final int HEARTBEAT_INTERVAL = 60000;
+    private final int IDLE_ROUNDS = 2;
+    private final int HISTORY_CAPACITY = 10;
+    private final GameSocketService gameSocketService = new GameSocketService(random, ROUND_DELAY,
+            new RoundDeltaService(DELTA_INTERVAL), new SessionReaperService(HEARTBEAT_INTERVAL, IDLE_ROUNDS),
+            new RoundHistoryService(HISTORY_CAPACITY));
 
     @Test
     public void handleTextMessageValidBet() throws IOException {
@@ -185,6 +204,183 @@ public class GameSocketServiceTest {
         verify(session).sendMessage(new TextMessage(NO_WINNERS));
     }
 
+    @Test
+    public void subscribedSessionReceivesRoundDelta() throws InterruptedException, IOException {
+        WebSocketSession subscriber = mock(WebSocketSession.class);
+        WebSocketSession session = mock(WebSocketSession.class);
+        gameSocketService.afterConnectionEstablished(subscriber);
+        gameSocketService.afterConnectionEstablished(session);
+        gameSocketService.handleTextMessage(subscriber, new TextMessage(SUBSCRIBE));
+
+        placeBet(session, "John", 3, 100);
+
+        Thread.sleep(DELTA_INTERVAL * 2);
+
+        verify(subscriber).sendMessage(new TextMessage(SUBSCRIBED));
+        verify(subscriber).sendMessage(argThat(message -> message.getPayload().toString().contains("\"pot\":100")));
+        verify(session, never()).sendMessage(argThat(message -> message.getPayload().toString().contains("\"pot\"")));
+    }
+
+    @Test
+    public void subscribedSessionReceivesNoDeltaWithoutBets() throws InterruptedException, IOException {
+        WebSocketSession subscriber = mock(WebSocketSession.class);
+        gameSocketService.afterConnectionEstablished(subscriber);
+        gameSocketService.handleTextMessage(subscriber, new TextMessage(SUBSCRIBE));
+
+        Thread.sleep(DELTA_INTERVAL * 2);
+
+        verify(subscriber, never()).sendMessage(argThat(message -> message.getPayload().toString().contains("\"pot\"")));
+    }
+
+    @Test
+    public void sessionWithoutBetsIsClosedAfterIdleRounds() throws InterruptedException, IOException {
+        WebSocketSession idleSession = mock(WebSocketSession.class);
+        WebSocketSession activeSession = mock(WebSocketSession.class);
+        gameSocketService.afterConnectionEstablished(idleSession);
+        gameSocketService.afterConnectionEstablished(activeSession);
+
+        placeBet(activeSession, "USER_" + UUID.randomUUID(), 1, 1);
+        waitForNumberGeneration();
+        verify(idleSession, never()).sendMessage(new TextMessage(IDLE_DISCONNECTED));
+
+        placeBet(activeSession, "USER_" + UUID.randomUUID(), 1, 1);
+        waitForNumberGeneration();
+
+        verify(idleSession).sendMessage(new TextMessage(IDLE_DISCONNECTED));
+        verify(idleSession).close(argThat(status -> status.getCode() == CloseStatus.POLICY_VIOLATION.getCode()));
+        verify(activeSession, never()).sendMessage(new TextMessage(IDLE_DISCONNECTED));
+    }
+
+    @Test
+    public void closedSessionDoesNotStopRounds() throws InterruptedException, IOException {
+        WebSocketSession closedSession = mock(WebSocketSession.class);
+        WebSocketSession session = mock(WebSocketSession.class);
+        doThrow(new IllegalStateException("closed")).when(closedSession).sendMessage(any());
+        gameSocketService.afterConnectionEstablished(closedSession);
+        gameSocketService.afterConnectionEstablished(session);
+
+        when(random.nextInt(1, 11)).thenReturn(generatedNumber);
+
+        waitForNumberGeneration();
+        waitForNumberGeneration();
+
+        verify(session, times(2)).sendMessage(new TextMessage(NO_WINNERS));
+    }
+
+    @Test
+    public void slowSessionDoesNotBlockOtherPlayers() throws InterruptedException, IOException {
+        WebSocketSession slowSession = mock(WebSocketSession.class);
+        WebSocketSession session = mock(WebSocketSession.class);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> release.await(ROUND_DELAY * 5L, TimeUnit.MILLISECONDS)).when(slowSession).sendMessage(any());
+        try {
+            new Thread(() -> gameSocketService.afterConnectionEstablished(slowSession)).start();
+            verify(slowSession, timeout(ROUND_DELAY)).sendMessage(new TextMessage(GAME_START));
+
+            new Thread(() -> {
+                gameSocketService.afterConnectionEstablished(session);
+                placeBet(session, "John", 1, 3);
+            }).start();
+
+            verify(session, timeout(ROUND_DELAY)).sendMessage(new TextMessage(BET_ACCEPTED));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    public void historyReturnsFinishedRounds() throws InterruptedException, IOException {
+        WebSocketSession session = mock(WebSocketSession.class);
+        gameSocketService.afterConnectionEstablished(session);
+
+        placeBet(session, "John", 1, 100);
+
+        when(random.nextInt(1, 11)).thenReturn(generatedNumber);
+
+        waitForNumberGeneration();
+
+        gameSocketService.handleTextMessage(session, new TextMessage(HISTORY));
+
+        verify(session).sendMessage(new TextMessage("[{\"round\":1,\"number\":1,\"winners\":1,\"pot\":100,\"payout\":990.00}]"));
+    }
+
+    @Test
+    public void drainFinishesRoundAndReturnsSnapshot() throws InterruptedException, IOException {
+        WebSocketSession session = mock(WebSocketSession.class);
+        gameSocketService.afterConnectionEstablished(session);
+
+        placeBet(session, "John", 2, 100);
+
+        when(random.nextInt(1, 11)).thenReturn(generatedNumber);
+
+        GameSnapshot snapshot = gameSocketService.drain();
+
+        String token = snapshot.getResumeTokens().keySet().iterator().next();
+        verify(session).sendMessage(new TextMessage(LOSS + generatedNumber));
+        verify(session).sendMessage(new TextMessage(String.format(SERVER_RESTARTING_RESUME, token)));
+        verify(session).close(CloseStatus.SERVICE_RESTARTED);
+        assertEquals(1, snapshot.getRound());
+        assertEquals(List.of("John"), List.copyOf(snapshot.getResumeTokens().values()));
+    }
+
+    @Test
+    public void afterConnectionEstablishedWhileDrainingClosesSession() throws InterruptedException, IOException {
+        WebSocketSession session = mock(WebSocketSession.class);
+        gameSocketService.drain();
+
+        gameSocketService.afterConnectionEstablished(session);
+
+        verify(session, never()).sendMessage(new TextMessage(GAME_START));
+        verify(session).close(CloseStatus.SERVICE_RESTARTED);
+    }
+
+    @Test
+    public void restoreContinuesRoundSequence() throws InterruptedException {
+        gameSocketService.restore(new GameSnapshot(41, 0, Map.of("token", "John")));
+        WebSocketSession session = mock(WebSocketSession.class);
+        gameSocketService.afterConnectionEstablished(session);
+
+        assertEquals(42, gameSocketService.drain().getRound());
+    }
+
+    @Test
+    public void restoredNameIsReservedForResumedSession() throws IOException {
+        gameSocketService.restore(new GameSnapshot(41, 0, Map.of("token", "John")));
+        WebSocketSession returning = mock(WebSocketSession.class);
+        WebSocketSession other = mock(WebSocketSession.class);
+        gameSocketService.afterConnectionEstablished(returning);
+        gameSocketService.afterConnectionEstablished(other);
+
+        placeBet(other, "John", 1, 3);
+        gameSocketService.handleTextMessage(returning, new TextMessage(RESUME + " token"));
+        placeBet(returning, "John", 1, 3);
+
+        verify(other).sendMessage(new TextMessage(NAME_ALREADY_TAKEN));
+        verify(returning).sendMessage(new TextMessage(String.format(PLAYER_RESUMED, "John", 41)));
+        verify(returning).sendMessage(new TextMessage(BET_ACCEPTED));
+    }
+
+    @Test
+    public void resumeWithUnknownTokenIsRejected() throws IOException {
+        WebSocketSession session = mock(WebSocketSession.class);
+
+        gameSocketService.handleTextMessage(session, new TextMessage(RESUME + " unknown"));
+
+        verify(session).sendMessage(new TextMessage(INVALID_RESUME_TOKEN));
+    }
+
+    @Test
+    public void restoredNamesAreReleasedAfterFirstRound() throws IOException, InterruptedException {
+        gameSocketService.restore(new GameSnapshot(41, 0, Map.of("token", "John")));
+        WebSocketSession session = mock(WebSocketSession.class);
+        gameSocketService.afterConnectionEstablished(session);
+
+        waitForNumberGeneration();
+        placeBet(session, "John", 1, 3);
+
+        verify(session).sendMessage(new TextMessage(BET_ACCEPTED));
+    }
+
     private void placeBet(WebSocketSession session, String name, int number, int betAmount) {
         String bet = String.format("{\"name\":\"%s\",\"number\":%d,\"betAmount\":%d}", name, number, betAmount);
         gameSocketService.handleTextMessage(session, new TextMessage(bet));
@@ -0,0 +1,71 @@
+package com.task.guessnumber.unit;
+
+import com.task.guessnumber.model.RoundResult;
+import com.task.guessnumber.service.RoundHistoryService;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RoundHistoryServiceTest {
+
+    private static final int CAPACITY = 3;
+
+    private final RoundHistoryService roundHistoryService = new RoundHistoryService(CAPACITY);
+
+    @Test
+    public void recentWithoutRoundsIsEmpty() {
+        assertTrue(roundHistoryService.recent(CAPACITY).isEmpty());
+    }
+
+    @Test
+    public void recentReturnsNewestFirst() {
+        recordRounds(2);
+
+        List<RoundResult> results = roundHistoryService.recent(CAPACITY);
+
+        assertEquals(2, results.size());
+        assertEquals(2, results.get(0).getRound());
+        assertEquals(1, results.get(1).getRound());
+    }
+
+    @Test
+    public void recentKeepsOnlyLastRoundsWhenFull() {
+        recordRounds(7);
+
+        List<RoundResult> results = roundHistoryService.recent(10);
+
+        assertEquals(List.of(7L, 6L, 5L), results.stream().map(RoundResult::getRound).toList());
+    }
+
+    @Test
+    public void recentRespectsLimit() {
+        recordRounds(3);
+
+        assertEquals(1, roundHistoryService.recent(1).size());
+    }
+
+    @Test
+    public void recentRestoresAllFields() {
+        BigDecimal payout = BigDecimal.valueOf(990.00).setScale(2, RoundingMode.HALF_UP);
+        roundHistoryService.record(new RoundResult(5, 4, 2, 150, payout));
+
+        RoundResult result = roundHistoryService.recent(1).get(0);
+
+        assertEquals(5, result.getRound());
+        assertEquals(4, result.getNumber());
+        assertEquals(2, result.getWinners());
+        assertEquals(150, result.getPot());
+        assertEquals(payout, result.getPayout());
+    }
+
+    private void recordRounds(int count) {
+        for (int round = 1; round <= count; round++) {
+            roundHistoryService.record(new RoundResult(round, 1, 0, 10, BigDecimal.ZERO));
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.task.guessnumber.unit;
+
+import com.task.guessnumber.model.GameSnapshot;
+import com.task.guessnumber.service.SnapshotService;
+import com.task.guessnumber.util.RestorableRandom;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SnapshotServiceTest {
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    public void writeAndLoadRestoresRoundRandomAndResumeTokens() throws IOException {
+        Path path = directory.resolve("round.snapshot");
+        RestorableRandom random = new RestorableRandom(42);
+        random.nextInt(1, 11);
+        new SnapshotService(path).write(new GameSnapshot(7, random.getState(), Map.of("token-1", "John", "token-2", "Jane")));
+
+        Optional<GameSnapshot> snapshot = new SnapshotService(path).load();
+
+        assertTrue(snapshot.isPresent());
+        assertEquals(7, snapshot.get().getRound());
+        assertEquals(Map.of("token-1", "John", "token-2", "Jane"), snapshot.get().getResumeTokens());
+        RestorableRandom restored = new RestorableRandom(snapshot.get().getRandomState());
+        for (int i = 0; i < 10; i++) {
+            assertEquals(random.nextInt(1, 11), restored.nextInt(1, 11));
+        }
+    }
+
+    @Test
+    public void loadDeletesSnapshot() throws IOException {
+        Path path = directory.resolve("round.snapshot");
+        new SnapshotService(path).write(new GameSnapshot(1, new RestorableRandom().getState(), Map.of()));
+
+        new SnapshotService(path).load();
+
+        assertFalse(Files.exists(path));
+    }
+
+    @Test
+    public void loadIgnoresCorruptedSnapshot() throws IOException {
+        Path path = directory.resolve("round.snapshot");
+        Files.write(path, new byte[]{1, 2, 3});
+
+        assertTrue(new SnapshotService(path).load().isEmpty());
+    }
+
+    @Test
+    public void loadWithoutSnapshotReturnsEmpty() {
+        assertTrue(new SnapshotService(directory.resolve("missing.snapshot")).load().isEmpty());
+    }
+}
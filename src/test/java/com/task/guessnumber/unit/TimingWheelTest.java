@@ -0,0 +1,54 @@
+package com.task.guessnumber.unit;
+
+import com.task.guessnumber.util.TimingWheel;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TimingWheelTest {
+
+    private final TimingWheel<String> wheel = new TimingWheel<>(8);
+
+    @Test
+    public void advanceReturnsItemWhenDeadlineReached() {
+        wheel.schedule("John", 3);
+
+        assertTrue(wheel.advance().isEmpty());
+        assertTrue(wheel.advance().isEmpty());
+        assertEquals(List.of("John"), wheel.advance());
+        assertTrue(wheel.advance().isEmpty());
+    }
+
+    @Test
+    public void scheduleAgainPostponesDeadline() {
+        wheel.schedule("John", 2);
+        wheel.advance();
+        wheel.schedule("John", 2);
+
+        assertTrue(wheel.advance().isEmpty());
+        assertEquals(List.of("John"), wheel.advance());
+    }
+
+    @Test
+    public void cancelledItemNeverExpires() {
+        wheel.schedule("John", 1);
+        wheel.cancel("John");
+
+        for (int i = 0; i < 8; i++) {
+            assertTrue(wheel.advance().isEmpty());
+        }
+    }
+
+    @Test
+    public void deadlineIsCappedAtWheelSize() {
+        wheel.schedule("John", 100);
+
+        for (int i = 0; i < 7; i++) {
+            assertTrue(wheel.advance().isEmpty());
+        }
+        assertEquals(List.of("John"), wheel.advance());
+    }
+}